@@ -0,0 +1,186 @@
+package com.example.expense_tracker_app;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Latency budgets for the database calls behind the main screens, measured on
+ * generated datasets of increasing size.
+ *
+ * The primary user gets a quarter of the rows, capped at {@link #MAX_PRIMARY_ROWS}:
+ * larger scales add users rather than growing one account past what a person enters,
+ * which also keeps the home list within the instrumentation process's heap.
+ *
+ * Only the 10k and 100k scales run by default. Larger ones are opt-in because
+ * generating them takes minutes:
+ * <pre>
+ * ./gradlew connectedAndroidTest \
+ *     -Pandroid.testInstrumentationRunnerArguments.perfScales=10000,100000,1000000,10000000
+ * </pre>
+ */
+@RunWith(Parameterized.class)
+public class DBLatencyTest {
+    private static final String TAG = "DBLatencyTest";
+    private static final String TEST_DB = "ExpenseTrackerLatencyTest.db";
+    private static final long SEED = 42L;
+    private static final double PRIMARY_SHARE = 0.25;
+    // About 14 expenses a day for ten years
+    private static final long MAX_PRIMARY_ROWS = 50_000L;
+    private static final int WARMUP_RUNS = 1;
+    private static final int MEASURED_RUNS = 5;
+    // Marks rows written by the insert test so they can be removed before the next test
+    private static final String PROBE_DESCRIPTION = "Latency probe";
+
+    // Budgets in ms for the median run: {rows, home load, insert, total, login}
+    private static final long[][] BUDGETS = {
+            {10_000L, 200, 20, 50, 20},
+            {100_000L, 1_000, 20, 150, 20},
+            {1_000_000L, 2_000, 30, 300, 30},
+            {10_000_000L, 3_000, 50, 500, 50}
+    };
+
+    private static long populatedRows = -1;
+
+    private final long rows;
+    private final long[] budget;
+    private Context context;
+    private DBHelper dbHelper;
+
+    public DBLatencyTest(long rows) {
+        this.rows = rows;
+        this.budget = budgetFor(rows);
+    }
+
+    @Parameterized.Parameters(name = "{0} rows")
+    public static Collection<Object[]> scales() {
+        Bundle arguments = InstrumentationRegistry.getArguments();
+        String scales = arguments.getString("perfScales", "10000,100000");
+        List<Object[]> parameters = new ArrayList<>();
+        for (String scale : scales.split(",")) {
+            parameters.add(new Object[]{Long.parseLong(scale.trim())});
+        }
+        return parameters;
+    }
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        // Every test of one scale shares the same dataset; only regenerate when the scale changes
+        if (populatedRows != rows) {
+            context.deleteDatabase(TEST_DB);
+            dbHelper = new DBHelper(context, TEST_DB);
+            long start = SystemClock.elapsedRealtime();
+            int userCount = (int) Math.max(1, rows / 1_000);
+            double primaryShare = Math.min(PRIMARY_SHARE, (double) MAX_PRIMARY_ROWS / rows);
+            new ExpenseDataGenerator(SEED).populate(dbHelper.getWritableDatabase(), userCount, rows, primaryShare);
+            dbHelper.close();
+            populatedRows = rows;
+            Log.d(TAG, "Generated " + rows + " rows in " + (SystemClock.elapsedRealtime() - start) + " ms");
+        }
+        dbHelper = new DBHelper(context, TEST_DB);
+    }
+
+    @After
+    public void tearDown() {
+        // Keep the shared dataset identical for every test at this scale
+        dbHelper.getWritableDatabase().delete("expenses", "description = ?", new String[]{PROBE_DESCRIPTION});
+        dbHelper.close();
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(TEST_DB);
+        populatedRows = -1;
+    }
+
+    @Test
+    public void homeScreenLoad_withinBudget() {
+        final String email = ExpenseDataGenerator.PRIMARY_USER_EMAIL;
+        // Same calls HomeActivity makes in onCreate
+        assertWithinBudget("home load", budget[1], new Runnable() {
+            @Override
+            public void run() {
+                dbHelper.getUsernameByEmail(email);
+                dbHelper.getTotalExpensesByUser(email);
+                List<DBHelper.Expense> expenses = dbHelper.getExpensesByUser(email);
+                dbHelper.getCurrencyConverter().convertAll(expenses, CurrencyConverter.BASE_CURRENCY);
+            }
+        });
+    }
+
+    @Test
+    public void insertExpense_withinBudget() {
+        assertWithinBudget("insert", budget[2], new Runnable() {
+            @Override
+            public void run() {
+                assertTrue(dbHelper.insertExpense(ExpenseDataGenerator.PRIMARY_USER_EMAIL, 12.5, "Food", "01/15/2025", PROBE_DESCRIPTION));
+            }
+        });
+    }
+
+    @Test
+    public void totalExpenses_withinBudget() {
+        assertWithinBudget("total", budget[3], new Runnable() {
+            @Override
+            public void run() {
+                assertTrue(dbHelper.getTotalExpensesByUser(ExpenseDataGenerator.PRIMARY_USER_EMAIL) > 0);
+            }
+        });
+    }
+
+    @Test
+    public void login_withinBudget() {
+        assertWithinBudget("login", budget[4], new Runnable() {
+            @Override
+            public void run() {
+                assertTrue(dbHelper.checkUserLogin(ExpenseDataGenerator.PRIMARY_USER_EMAIL, ExpenseDataGenerator.PASSWORD));
+            }
+        });
+    }
+
+    private void assertWithinBudget(String operation, long budgetMs, Runnable action) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            action.run();
+        }
+        long[] timings = new long[MEASURED_RUNS];
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long start = SystemClock.elapsedRealtimeNanos();
+            action.run();
+            timings[i] = (SystemClock.elapsedRealtimeNanos() - start) / 1_000_000;
+        }
+        Arrays.sort(timings);
+        long median = timings[MEASURED_RUNS / 2];
+        Log.d(TAG, operation + " at " + rows + " rows: median " + median + " ms, budget " + budgetMs + " ms");
+        assertTrue(operation + " at " + rows + " rows took " + median + " ms (budget " + budgetMs + " ms)",
+                median <= budgetMs);
+    }
+
+    // Uses the smallest budgeted scale that covers the requested row count
+    private static long[] budgetFor(long rows) {
+        for (long[] budget : BUDGETS) {
+            if (rows <= budget[0]) {
+                return budget;
+            }
+        }
+        return BUDGETS[BUDGETS.length - 1];
+    }
+}
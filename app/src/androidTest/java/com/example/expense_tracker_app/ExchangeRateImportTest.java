@@ -0,0 +1,67 @@
+package com.example.expense_tracker_app;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class ExchangeRateImportTest {
+    private static final String TEST_DB = "ExpenseTrackerRateImportTest.db";
+    private static final String EMAIL = "rates@example.com";
+    private static final double DELTA = 1e-6;
+
+    private final Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+    private DBHelper dbHelper;
+
+    @Before
+    public void setUp() {
+        context.deleteDatabase(TEST_DB);
+        dbHelper = new DBHelper(context, TEST_DB);
+        CurrencyConverter.getInstance().invalidate();
+    }
+
+    @After
+    public void tearDown() {
+        dbHelper.close();
+        CurrencyConverter.getInstance().invalidate();
+        context.deleteDatabase(TEST_DB);
+    }
+
+    @Test
+    public void import_keepsCurrenciesTheFileLeavesOut() {
+        assertTrue(dbHelper.insertExpense(EMAIL, 100.0, "GBP", "Food", "03/05/2025", "Dinner"));
+        double totalBefore = dbHelper.getTotalExpensesByUser(EMAIL);
+        assertTrue(totalBefore > 0);
+
+        assertTrue(importRates("date,currency,rate\n2025-03-01,EUR,1.20\n"));
+
+        assertEquals(totalBefore, dbHelper.getTotalExpensesByUser(EMAIL), DELTA);
+        assertTrue(dbHelper.getAvailableCurrencies().contains("GBP"));
+    }
+
+    @Test
+    public void import_replacesRateForSameCurrencyAndDay() {
+        assertTrue(importRates("date,currency,rate\n2025-03-01,EUR,1.20\n"));
+        assertTrue(dbHelper.insertExpense(EMAIL, 100.0, "EUR", "Food", "03/05/2025", "Dinner"));
+        assertEquals(120.0, dbHelper.getTotalExpensesByUser(EMAIL), DELTA);
+
+        assertTrue(importRates("date,currency,rate\n2025-03-01,EUR,1.50\n"));
+
+        assertEquals(150.0, dbHelper.getTotalExpensesByUser(EMAIL), DELTA);
+    }
+
+    private boolean importRates(String csv) {
+        return dbHelper.importExchangeRates(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.expense_tracker_app;
+
+import android.content.Context;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class ExpenseArchiveTest {
+    private static final String TEST_DB = "ExpenseTrackerArchiveTest.db";
+    private static final String EMAIL = ExpenseDataGenerator.PRIMARY_USER_EMAIL;
+    private static final double DELTA = 1e-6;
+
+    private final Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+    private DBHelper dbHelper;
+
+    @Before
+    public void setUp() {
+        context.deleteDatabase(TEST_DB);
+        dbHelper = new DBHelper(context, TEST_DB);
+        // Five years of history ending in 2025
+        new ExpenseDataGenerator(3L, 2025, 5).populate(dbHelper.getWritableDatabase(), 5, 5_000, 0.5);
+        dbHelper.close();
+    }
+
+    @After
+    public void tearDown() {
+        dbHelper.close();
+        // The converter is process-wide; make the next user reload rates from its own database
+        CurrencyConverter.getInstance().invalidate();
+        context.deleteDatabase(TEST_DB);
+    }
+
+    @Test
+    public void archive_keepsTotalsAndShrinksHotTable() {
+        double totalBefore = dbHelper.getTotalExpensesByUser(EMAIL);
+        int hotBefore = dbHelper.getExpensesByUser(EMAIL).size();
+
+        assertTrue(dbHelper.archiveExpensesBefore("2024-01") > 0);
+
+        List<DBHelper.Expense> hot = dbHelper.getExpensesByUser(EMAIL);
+        assertTrue(hot.size() < hotBefore);
+        for (DBHelper.Expense expense : hot) {
+            assertTrue(expense.getDate(), expense.getDate().endsWith("2024") || expense.getDate().endsWith("2025"));
+        }
+        assertEquals(totalBefore, dbHelper.getTotalExpensesByUser(EMAIL), DELTA);
+    }
+
+    @Test
+    public void archive_keepsConvertedTotalWhenRatesChangeMidMonth() {
+        String rates = "date,currency,rate\n2022-03-01,EUR,1.10\n2022-03-15,EUR,1.30\n";
+        assertTrue(dbHelper.importExchangeRates(new ByteArrayInputStream(rates.getBytes(StandardCharsets.UTF_8))));
+        assertTrue(dbHelper.insertExpense(EMAIL, 100.0, "EUR", "Food", "03/05/2022", "Before the change"));
+        assertTrue(dbHelper.insertExpense(EMAIL, 100.0, "EUR", "Food", "03/20/2022", "After the change"));
+
+        double totalBefore = dbHelper.getTotalExpensesByUser(EMAIL);
+        double categoriesBefore = sumOfCategoryTotals();
+        assertTrue(dbHelper.archiveExpensesBefore("2024-01") > 0);
+
+        assertEquals(totalBefore, dbHelper.getTotalExpensesByUser(EMAIL), DELTA);
+        assertEquals(categoriesBefore, sumOfCategoryTotals(), DELTA);
+    }
+
+    @Test
+    public void archive_keepsOneBaseCurrencySummaryPerMonthAndCategory() {
+        dbHelper.archiveExpensesBefore("2024-01");
+
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        long rows = DatabaseUtils.longForQuery(db,
+                "SELECT COUNT(*) FROM expense_summaries WHERE currency = 'USD'", null);
+        long groups = DatabaseUtils.longForQuery(db,
+                "SELECT COUNT(*) FROM (SELECT DISTINCT user_email, month, category FROM expense_summaries WHERE currency = 'USD')", null);
+        assertTrue(rows > 0);
+        assertEquals(groups, rows);
+    }
+
+    @Test
+    public void archivedRows_areRetrievableByMonth() {
+        int hotBefore = dbHelper.getExpensesByUser(EMAIL).size();
+        dbHelper.archiveExpensesBefore("2024-01");
+
+        List<String> months = dbHelper.getArchivedMonths(EMAIL);
+        assertEquals("2023-12", months.get(0));
+        int archivedRows = 0;
+        for (String month : months) {
+            List<DBHelper.Expense> rows = dbHelper.getArchivedExpenses(EMAIL, month);
+            for (DBHelper.Expense expense : rows) {
+                String date = expense.getDate();
+                assertEquals(month, date.substring(6, 10) + "-" + date.substring(0, 2));
+            }
+            archivedRows += rows.size();
+        }
+        assertEquals(hotBefore, archivedRows + dbHelper.getExpensesByUser(EMAIL).size());
+    }
+
+    @Test
+    public void archiveAgain_mergesLateRowsIntoExistingMonth() {
+        dbHelper.archiveExpensesBefore("2024-01");
+        int before = dbHelper.getArchivedExpenses(EMAIL, "2022-03").size();
+        double totalBefore = dbHelper.getTotalExpensesByUser(EMAIL);
+
+        assertTrue(dbHelper.insertExpense(EMAIL, 10.0, "Food", "03/10/2022", "Late entry"));
+        assertEquals(1, dbHelper.archiveExpensesBefore("2024-01"));
+
+        assertEquals(before + 1, dbHelper.getArchivedExpenses(EMAIL, "2022-03").size());
+        assertEquals(totalBefore + 10.0, dbHelper.getTotalExpensesByUser(EMAIL), DELTA);
+    }
+
+    @Test
+    public void monthlyCategoryTotals_mergeHotAndArchivedRows() {
+        double total = dbHelper.getTotalExpensesByUser(EMAIL);
+        dbHelper.archiveExpensesBefore("2024-01");
+
+        double sum = 0.0;
+        boolean sawArchived = false;
+        boolean sawHot = false;
+        for (DBHelper.CategoryTotal categoryTotal : dbHelper.getMonthlyCategoryTotals(EMAIL)) {
+            sum += categoryTotal.getTotal();
+            sawArchived |= categoryTotal.getMonth().compareTo("2024-01") < 0;
+            sawHot |= categoryTotal.getMonth().compareTo("2024-01") >= 0;
+        }
+        assertTrue(sawArchived && sawHot);
+        assertEquals(total, sum, DELTA);
+    }
+
+    private double sumOfCategoryTotals() {
+        double sum = 0.0;
+        for (DBHelper.CategoryTotal categoryTotal : dbHelper.getMonthlyCategoryTotals(EMAIL)) {
+            sum += categoryTotal.getTotal();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.expense_tracker_app;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Fills the users/expenses schema with synthetic but realistic data.
+ *
+ * The same seed always produces the same rows, so latency numbers from different
+ * runs are comparable. Rows are written through compiled statements inside
+ * batched transactions, which keeps 10M-row datasets within a few minutes.
+ */
+public class ExpenseDataGenerator {
+    public static final String PRIMARY_USER_EMAIL = "user0@example.com";
+    public static final String PASSWORD = "password";
+
+    private static final int BATCH_SIZE = 50_000;
+
+    // Same categories as AddExpenseActivity, with the share of rows each one gets
+    private static final String[] CATEGORIES = {"Food", "Transport", "Entertainment", "Bills", "Shopping", "Other"};
+    private static final double[] CATEGORY_WEIGHTS = {0.35, 0.20, 0.10, 0.10, 0.15, 0.10};
+
+    // Log-normal amount parameters per category (median = e^mu)
+    private static final double[] AMOUNT_MU = {2.5, 2.3, 3.2, 4.4, 3.6, 3.0};
+    private static final double[] AMOUNT_SIGMA = {0.6, 0.7, 0.7, 0.5, 0.9, 1.0};
+
+    // Earlier entries are picked more often, so a few descriptions dominate like in real use
+    private static final String[][] DESCRIPTIONS = {
+            {"Lunch", "Groceries", "Coffee", "Dinner", "Breakfast", "Bakery", "Takeaway", "Snacks"},
+            {"Bus ticket", "Taxi", "Fuel", "Train", "Parking", "Metro card", "Car wash"},
+            {"Cinema", "Concert", "Streaming subscription", "Books", "Games", "Museum"},
+            {"Electricity", "Internet", "Phone", "Water", "Rent", "Insurance", "Gas"},
+            {"Clothes", "Shoes", "Electronics", "Household items", "Gifts", "Furniture"},
+            {"Pharmacy", "Haircut", "Donation", "Bank fee", "Gym", "Repairs"}
+    };
+    private static final double NULL_DESCRIPTION_RATE = 0.15;
+
+    // Base currency plus the codes in the bundled exchange_rates.csv; most spending stays in
+    // the base currency, so conversion runs on about one row in five
+    private static final String[] CURRENCIES = {"USD", "EUR", "GBP", "CAD", "MAD", "TND", "JPY", "CHF", "AUD", "CNY", "INR"};
+    private static final double[] CURRENCY_WEIGHTS = {0.80, 0.07, 0.03, 0.02, 0.02, 0.01, 0.01, 0.01, 0.01, 0.01, 0.01};
+
+    private final Random random;
+    private final int lastYear;
+    private final int years;
+
+    /**
+     * @param seed     seed for every random choice made by this generator
+     * @param lastYear most recent year dates are drawn from
+     * @param years    number of years of history, ending with {@code lastYear}
+     */
+    public ExpenseDataGenerator(long seed, int lastYear, int years) {
+        this.random = new Random(seed);
+        this.lastYear = lastYear;
+        this.years = years;
+    }
+
+    public ExpenseDataGenerator(long seed) {
+        this(seed, 2025, 5);
+    }
+
+    /**
+     * Inserts {@code userCount} users and {@code expenseCount} expenses.
+     * {@link #PRIMARY_USER_EMAIL} receives {@code primaryShare} of the expenses,
+     * the rest are spread uniformly over the other users.
+     */
+    public void populate(SQLiteDatabase db, int userCount, long expenseCount, double primaryShare) {
+        insertUsers(db, userCount);
+        insertExpenses(db, userCount, expenseCount, primaryShare);
+    }
+
+    private void insertUsers(SQLiteDatabase db, int userCount) {
+        SQLiteStatement statement = db.compileStatement(
+                "INSERT INTO users (username, email, password) VALUES (?, ?, ?)");
+        db.beginTransaction();
+        try {
+            for (int i = 0; i < userCount; i++) {
+                statement.clearBindings();
+                statement.bindString(1, "User " + i);
+                statement.bindString(2, emailFor(i));
+                statement.bindString(3, PASSWORD);
+                statement.executeInsert();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            statement.close();
+        }
+    }
+
+    private void insertExpenses(SQLiteDatabase db, int userCount, long expenseCount, double primaryShare) {
+        SQLiteStatement statement = db.compileStatement(
+                "INSERT INTO expenses (user_email, amount, category, date, description, currency) VALUES (?, ?, ?, ?, ?, ?)");
+        try {
+            long written = 0;
+            while (written < expenseCount) {
+                long batchEnd = Math.min(expenseCount, written + BATCH_SIZE);
+                db.beginTransaction();
+                try {
+                    for (; written < batchEnd; written++) {
+                        int category = pickWeighted(CATEGORY_WEIGHTS);
+                        statement.clearBindings();
+                        statement.bindString(1, emailFor(pickUser(userCount, primaryShare)));
+                        statement.bindDouble(2, pickAmount(category));
+                        statement.bindString(3, CATEGORIES[category]);
+                        statement.bindString(4, pickDate());
+                        String description = pickDescription(category);
+                        if (description == null) {
+                            statement.bindNull(5);
+                        } else {
+                            statement.bindString(5, description);
+                        }
+                        statement.bindString(6, CURRENCIES[pickWeighted(CURRENCY_WEIGHTS)]);
+                        statement.executeInsert();
+                    }
+                    db.setTransactionSuccessful();
+                } finally {
+                    db.endTransaction();
+                }
+            }
+        } finally {
+            statement.close();
+        }
+    }
+
+    public static String emailFor(int userIndex) {
+        return "user" + userIndex + "@example.com";
+    }
+
+    private int pickUser(int userCount, double primaryShare) {
+        if (userCount == 1 || random.nextDouble() < primaryShare) {
+            return 0;
+        }
+        return 1 + random.nextInt(userCount - 1);
+    }
+
+    private int pickWeighted(double[] weights) {
+        double r = random.nextDouble();
+        for (int i = 0; i < weights.length - 1; i++) {
+            r -= weights[i];
+            if (r < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    private double pickAmount(int category) {
+        double amount = Math.exp(AMOUNT_MU[category] + AMOUNT_SIGMA[category] * random.nextGaussian());
+        return Math.max(0.01, Math.round(amount * 100) / 100.0);
+    }
+
+    // Same MM/DD/YYYY format the date picker in AddExpenseActivity produces
+    private String pickDate() {
+        int year = lastYear - random.nextInt(years);
+        int month = 1 + random.nextInt(12);
+        int day = 1 + random.nextInt(daysInMonth(year, month));
+        return String.format(Locale.US, "%02d/%02d/%d", month, day, year);
+    }
+
+    private String pickDescription(int category) {
+        if (random.nextDouble() < NULL_DESCRIPTION_RATE) {
+            return null;
+        }
+        String[] pool = DESCRIPTIONS[category];
+        double u = random.nextDouble();
+        return pool[(int) (pool.length * u * u)];
+    }
+
+    private static int daysInMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+                return leap ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+}
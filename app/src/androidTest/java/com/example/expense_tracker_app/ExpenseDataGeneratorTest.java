@@ -0,0 +1,83 @@
+package com.example.expense_tracker_app;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class ExpenseDataGeneratorTest {
+    private static final String DB_A = "ExpenseTrackerGeneratorTestA.db";
+    private static final String DB_B = "ExpenseTrackerGeneratorTestB.db";
+
+    private final Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+
+    @After
+    public void tearDown() {
+        context.deleteDatabase(DB_A);
+        context.deleteDatabase(DB_B);
+    }
+
+    @Test
+    public void sameSeed_producesSameRows() {
+        String a = dump(generate(DB_A, 7L));
+        String b = dump(generate(DB_B, 7L));
+        assertEquals(a, b);
+    }
+
+    @Test
+    public void populate_writesRequestedCounts() {
+        DBHelper dbHelper = generate(DB_A, 1L);
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        assertEquals(10, count(db, "SELECT COUNT(*) FROM users"));
+        assertEquals(10_000, count(db, "SELECT COUNT(*) FROM expenses"));
+        // Roughly half of the rows belong to the primary user
+        long primary = count(db, "SELECT COUNT(*) FROM expenses WHERE user_email = '" + ExpenseDataGenerator.PRIMARY_USER_EMAIL + "'");
+        assertTrue("primary user has " + primary + " rows", primary > 4_500 && primary < 6_500);
+        // About a fifth of the rows need converting, spread over several currencies
+        long foreign = count(db, "SELECT COUNT(*) FROM expenses WHERE currency <> 'USD'");
+        assertTrue("non-USD rows: " + foreign, foreign > 1_500 && foreign < 2_500);
+        assertTrue(count(db, "SELECT COUNT(DISTINCT currency) FROM expenses") > 5);
+        dbHelper.close();
+    }
+
+    private DBHelper generate(String name, long seed) {
+        context.deleteDatabase(name);
+        DBHelper dbHelper = new DBHelper(context, name);
+        new ExpenseDataGenerator(seed).populate(dbHelper.getWritableDatabase(), 10, 10_000, 0.5);
+        return dbHelper;
+    }
+
+    private static String dump(DBHelper dbHelper) {
+        StringBuilder builder = new StringBuilder();
+        Cursor cursor = dbHelper.getReadableDatabase().rawQuery(
+                "SELECT user_email, amount, category, date, description, currency FROM expenses ORDER BY id", null);
+        while (cursor.moveToNext()) {
+            builder.append(cursor.getString(0)).append('|')
+                    .append(cursor.getDouble(1)).append('|')
+                    .append(cursor.getString(2)).append('|')
+                    .append(cursor.getString(3)).append('|')
+                    .append(cursor.getString(4)).append('|')
+                    .append(cursor.getString(5)).append('\n');
+        }
+        cursor.close();
+        dbHelper.close();
+        return builder.toString();
+    }
+
+    private static long count(SQLiteDatabase db, String query) {
+        Cursor cursor = db.rawQuery(query, null);
+        cursor.moveToFirst();
+        long count = cursor.getLong(0);
+        cursor.close();
+        return count;
+    }
+}
@@ -1,20 +1,27 @@
 package com.example.expense_tracker_app;
 
 import android.app.DatePickerDialog;
+import android.content.Context;
 import android.os.Bundle;
 import android.view.View;
+import android.widget.AdapterView;
 import android.widget.ArrayAdapter;
+import android.widget.AutoCompleteTextView;
 import android.widget.Button;
 import android.widget.EditText;
+import android.widget.Filter;
 import android.widget.Spinner;
 import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.List;
 import java.util.Locale;
 
 public class AddExpenseActivity extends AppCompatActivity {
-    private EditText amountEditText, dateEditText, descriptionEditText;
-    private Spinner categorySpinner;
+    private EditText amountEditText, dateEditText;
+    private AutoCompleteTextView descriptionEditText;
+    private Spinner categorySpinner, currencySpinner;
     private Button saveExpenseButton;
     private DBHelper dbHelper;
     private String userEmail;
@@ -26,6 +33,7 @@ public class AddExpenseActivity extends AppCompatActivity {
 
         // Initialize views
         amountEditText = findViewById(R.id.amountEditText);
+        currencySpinner = findViewById(R.id.currencySpinner);
         categorySpinner = findViewById(R.id.categorySpinner);
         dateEditText = findViewById(R.id.dateEditText);
         descriptionEditText = findViewById(R.id.descriptionEditText);
@@ -48,6 +56,20 @@ public class AddExpenseActivity extends AppCompatActivity {
         adapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
         categorySpinner.setAdapter(adapter);
 
+        // Populate currency spinner from the stored exchange rates, base currency first
+        ArrayAdapter<String> currencyAdapter = new ArrayAdapter<>(this, android.R.layout.simple_spinner_item, dbHelper.getAvailableCurrencies());
+        currencyAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+        currencySpinner.setAdapter(currencyAdapter);
+
+        // Suggest past descriptions as the user types; picking one pre-fills category and amount
+        descriptionEditText.setAdapter(new SuggestionAdapter(this, DescriptionIndex.forUser(this, userEmail)));
+        descriptionEditText.setOnItemClickListener(new AdapterView.OnItemClickListener() {
+            @Override
+            public void onItemClick(AdapterView<?> parent, View view, int position, long id) {
+                applySuggestion((DescriptionIndex.Suggestion) parent.getItemAtPosition(position));
+            }
+        });
+
         // Set up date picker
         dateEditText.setOnClickListener(new View.OnClickListener() {
             @Override
@@ -61,6 +83,7 @@ public class AddExpenseActivity extends AppCompatActivity {
             @Override
             public void onClick(View v) {
                 String amountStr = amountEditText.getText().toString().trim();
+                String currency = currencySpinner.getSelectedItem().toString();
                 String category = categorySpinner.getSelectedItem().toString();
                 String date = dateEditText.getText().toString().trim();
                 String description = descriptionEditText.getText().toString().trim();
@@ -91,7 +114,7 @@ public class AddExpenseActivity extends AppCompatActivity {
                 }
 
                 // Save expense to database
-                boolean success = dbHelper.insertExpense(userEmail, amount, category, date, description.isEmpty() ? null : description);
+                boolean success = dbHelper.insertExpense(userEmail, amount, currency, category, date, description.isEmpty() ? null : description);
                 if (success) {
                     Toast.makeText(AddExpenseActivity.this, "Expense saved successfully!", Toast.LENGTH_SHORT).show();
                     // Return to HomeActivity
@@ -103,6 +126,23 @@ public class AddExpenseActivity extends AppCompatActivity {
         });
     }
 
+    private void applySuggestion(DescriptionIndex.Suggestion suggestion) {
+        selectSpinnerItem(categorySpinner, suggestion.getCategory());
+        if (amountEditText.getText().toString().trim().isEmpty()) {
+            amountEditText.setText(String.format(Locale.US, "%.2f", suggestion.getAmount()));
+            selectSpinnerItem(currencySpinner, suggestion.getCurrency());
+        }
+    }
+
+    private void selectSpinnerItem(Spinner spinner, String item) {
+        for (int i = 0; i < spinner.getCount(); i++) {
+            if (spinner.getItemAtPosition(i).toString().equals(item)) {
+                spinner.setSelection(i);
+                return;
+            }
+        }
+    }
+
     private void showDatePickerDialog() {
         final Calendar calendar = Calendar.getInstance();
         int year = calendar.get(Calendar.YEAR);
@@ -119,4 +159,52 @@ public class AddExpenseActivity extends AppCompatActivity {
                 year, month, day);
         datePickerDialog.show();
     }
-}
\ No newline at end of file
+
+    // Autocomplete adapter backed by the in-memory description index
+    private static class SuggestionAdapter extends ArrayAdapter<DescriptionIndex.Suggestion> {
+        private final DescriptionIndex index;
+        private List<DescriptionIndex.Suggestion> suggestions = new ArrayList<>();
+
+        SuggestionAdapter(Context context, DescriptionIndex index) {
+            super(context, android.R.layout.simple_dropdown_item_1line);
+            this.index = index;
+        }
+
+        @Override
+        public int getCount() {
+            return suggestions.size();
+        }
+
+        @Override
+        public DescriptionIndex.Suggestion getItem(int position) {
+            return suggestions.get(position);
+        }
+
+        @Override
+        public Filter getFilter() {
+            return new Filter() {
+                @Override
+                protected FilterResults performFiltering(CharSequence constraint) {
+                    FilterResults results = new FilterResults();
+                    List<DescriptionIndex.Suggestion> found = constraint == null
+                            ? new ArrayList<DescriptionIndex.Suggestion>()
+                            : index.suggest(constraint.toString(), DescriptionIndex.MAX_SUGGESTIONS);
+                    results.values = found;
+                    results.count = found.size();
+                    return results;
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                protected void publishResults(CharSequence constraint, FilterResults results) {
+                    suggestions = (List<DescriptionIndex.Suggestion>) results.values;
+                    if (results.count > 0) {
+                        notifyDataSetChanged();
+                    } else {
+                        notifyDataSetInvalidated();
+                    }
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.expense_tracker_app;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * In-memory view of the exchange_rates table.
+ *
+ * Rates are held as primitive arrays per currency and every resolved conversion
+ * factor is cached under a long key packing (from, to, epoch day), so converting a
+ * list or a grouped total never goes back to SQLite. The cache is dropped whenever
+ * the rates are replaced or invalidated after an import.
+ */
+public class CurrencyConverter {
+    public static final String BASE_CURRENCY = "USD";
+
+    private static CurrencyConverter instance;
+
+    // Sorted packed currency codes, with the rate history of each one (value of 1 unit in BASE_CURRENCY)
+    private int[] codes = new int[0];
+    private int[][] days = new int[0][];
+    private double[][] rates = new double[0][];
+    private boolean loaded;
+
+    private final FactorCache cache = new FactorCache();
+
+    public static synchronized CurrencyConverter getInstance() {
+        if (instance == null) {
+            instance = new CurrencyConverter();
+        }
+        return instance;
+    }
+
+    public synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Replaces all rates. The arrays are parallel rows sorted by currency, then by day,
+     * which is the order DBHelper reads them in.
+     */
+    public synchronized void setRates(String[] currencies, int[] epochDays, double[] values) {
+        int groups = 0;
+        for (int i = 0; i < currencies.length; i++) {
+            if (i == 0 || !currencies[i].equals(currencies[i - 1])) groups++;
+        }
+        int[] newCodes = new int[groups];
+        int[][] newDays = new int[groups][];
+        double[][] newRates = new double[groups][];
+        int group = 0;
+        for (int start = 0; start < currencies.length; group++) {
+            int end = start + 1;
+            while (end < currencies.length && currencies[end].equals(currencies[start])) end++;
+            newCodes[group] = pack(currencies[start]);
+            newDays[group] = Arrays.copyOfRange(epochDays, start, end);
+            newRates[group] = Arrays.copyOfRange(values, start, end);
+            start = end;
+        }
+        codes = newCodes;
+        days = newDays;
+        rates = newRates;
+        loaded = true;
+        cache.clear();
+    }
+
+    /** Forgets the loaded rates and every cached conversion; the next user reloads them. */
+    public synchronized void invalidate() {
+        loaded = false;
+        cache.clear();
+    }
+
+    /**
+     * Factor to multiply an amount in {@code from} by to get {@code to} on the given day.
+     * Uses the latest rate on or before that day, or the earliest known one for older days.
+     * Returns NaN when either currency has no rates.
+     */
+    public synchronized double factor(String from, String to, int epochDay) {
+        if (from.equals(to)) return 1.0;
+        int fromCode = pack(from);
+        int toCode = pack(to);
+        if (fromCode < 0 || toCode < 0) return Double.NaN;
+        long key = ((long) fromCode << 47) | ((long) toCode << 32) | (epochDay & 0xFFFFFFFFL);
+        double cached = cache.get(key);
+        if (!Double.isNaN(cached)) return cached;
+        double result = rateToBase(fromCode, epochDay) / rateToBase(toCode, epochDay);
+        if (!Double.isNaN(result)) cache.put(key, result);
+        return result;
+    }
+
+    public double convert(double amount, String from, String to, String date) {
+        return amount * factor(from, to, parseExpenseDate(date));
+    }
+
+    /** Converts every expense into {@code to} in a single pass over the list. */
+    public synchronized double[] convertAll(List<DBHelper.Expense> expenses, String to) {
+        double[] converted = new double[expenses.size()];
+        // Lists are ordered by date, so consecutive rows usually share currency and day
+        String lastCurrency = null;
+        String lastDate = null;
+        double lastFactor = Double.NaN;
+        for (int i = 0; i < converted.length; i++) {
+            DBHelper.Expense expense = expenses.get(i);
+            if (!expense.getCurrency().equals(lastCurrency) || !expense.getDate().equals(lastDate)) {
+                lastCurrency = expense.getCurrency();
+                lastDate = expense.getDate();
+                lastFactor = factor(lastCurrency, to, parseExpenseDate(lastDate));
+            }
+            converted[i] = expense.getAmount() * lastFactor;
+        }
+        return converted;
+    }
+
+    private double rateToBase(int code, int epochDay) {
+        if (code == pack(BASE_CURRENCY)) return 1.0;
+        int index = Arrays.binarySearch(codes, code);
+        if (index < 0) return Double.NaN;
+        int[] history = days[index];
+        int position = Arrays.binarySearch(history, epochDay);
+        if (position < 0) {
+            // Latest rate before the day, falling back to the first one
+            position = Math.max(0, -position - 2);
+        }
+        return rates[index][position];
+    }
+
+    // Packs a three-letter ISO code into 15 bits, or -1 if it is not one
+    static int pack(String currency) {
+        if (currency == null || currency.length() != 3) return -1;
+        int code = 0;
+        for (int i = 0; i < 3; i++) {
+            int c = currency.charAt(i) - 'A';
+            if (c < 0 || c >= 26) return -1;
+            code = code * 26 + c;
+        }
+        return code;
+    }
+
+    /** Epoch day of an expense date in MM/DD/YYYY format; malformed dates map to the latest rates. */
+    static int parseExpenseDate(String date) {
+        if (date == null || date.length() != 10) return Integer.MAX_VALUE;
+        try {
+            int month = Integer.parseInt(date.substring(0, 2));
+            int day = Integer.parseInt(date.substring(3, 5));
+            int year = Integer.parseInt(date.substring(6, 10));
+            return epochDay(year, month, day);
+        } catch (NumberFormatException e) {
+            return Integer.MAX_VALUE;
+        }
+    }
+
+    /** Epoch day of a rate date in YYYY-MM-DD format. */
+    static int parseRateDate(String date) {
+        int year = Integer.parseInt(date.substring(0, 4));
+        int month = Integer.parseInt(date.substring(5, 7));
+        int day = Integer.parseInt(date.substring(8, 10));
+        return epochDay(year, month, day);
+    }
+
+    // Days since 1970-01-01 in the proleptic Gregorian calendar (java.time needs API 26)
+    static int epochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    // Open-addressing long -> double map; NaN marks a miss
+    private static class FactorCache {
+        private static final long EMPTY = Long.MIN_VALUE;
+        private long[] keys;
+        private double[] values;
+        private int size;
+
+        FactorCache() {
+            allocate(64);
+        }
+
+        double get(long key) {
+            int mask = keys.length - 1;
+            for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+                if (keys[i] == key) return values[i];
+                if (keys[i] == EMPTY) return Double.NaN;
+            }
+        }
+
+        void put(long key, double value) {
+            if (size * 2 >= keys.length) grow();
+            int mask = keys.length - 1;
+            int i = mix(key) & mask;
+            while (keys[i] != EMPTY && keys[i] != key) i = (i + 1) & mask;
+            if (keys[i] == EMPTY) size++;
+            keys[i] = key;
+            values[i] = value;
+        }
+
+        void clear() {
+            allocate(64);
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            double[] oldValues = values;
+            allocate(oldKeys.length * 2);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) put(oldKeys[i], oldValues[i]);
+            }
+        }
+
+        private void allocate(int capacity) {
+            keys = new long[capacity];
+            Arrays.fill(keys, EMPTY);
+            values = new double[capacity];
+            size = 0;
+        }
+
+        private static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -3,16 +3,27 @@ package com.example.expense_tracker_app;
 import android.content.ContentValues;
 import android.content.Context;
 import android.database.Cursor;
+import android.database.DatabaseUtils;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
 import android.util.Log;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 public class DBHelper extends SQLiteOpenHelper {
     private static final String DATABASE_NAME = "ExpenseTrackerDB.db";
-    private static final int DATABASE_VERSION = 1;
+    private static final int DATABASE_VERSION = 3;
     private static final String TAG = "DBHelper";
 
     // Users table
@@ -30,6 +41,29 @@ public class DBHelper extends SQLiteOpenHelper {
     private static final String COLUMN_CATEGORY = "category";
     private static final String COLUMN_DATE = "date";
     private static final String COLUMN_DESCRIPTION = "description";
+    private static final String COLUMN_CURRENCY = "currency";
+
+    // Exchange rates table: value of one unit of currency in CurrencyConverter.BASE_CURRENCY on a day
+    private static final String TABLE_EXCHANGE_RATES = "exchange_rates";
+    private static final String COLUMN_RATE_CURRENCY = "currency";
+    private static final String COLUMN_RATE_DATE = "date";
+    private static final String COLUMN_RATE = "rate";
+    private static final String BUNDLED_RATES_FILE = "exchange_rates.csv";
+
+    // Archive tables: gzipped raw rows per user and month, and per-category totals for those months.
+    // Base-currency summaries are per month (date holds the month); other currencies keep the day so
+    // archived amounts convert at the same rate as when they were hot
+    private static final String TABLE_ARCHIVE = "expense_archive";
+    private static final String TABLE_SUMMARIES = "expense_summaries";
+    private static final String COLUMN_MONTH = "month";
+    private static final String COLUMN_ROW_COUNT = "row_count";
+    private static final String COLUMN_PAYLOAD = "payload";
+    private static final String COLUMN_TOTAL = "total";
+    private static final String COLUMN_COUNT = "count";
+    private static final double VACUUM_FREE_RATIO = 0.25;
+
+    // YYYY-MM of an expense date (stored as MM/DD/YYYY), which sorts correctly as text
+    private static final String MONTH_OF_DATE = "substr(" + COLUMN_DATE + ", 7, 4) || '-' || substr(" + COLUMN_DATE + ", 1, 2)";
 
     // SQL statements to create tables
     private static final String CREATE_TABLE_USERS = "CREATE TABLE " + TABLE_USERS + " (" +
@@ -45,10 +79,47 @@ public class DBHelper extends SQLiteOpenHelper {
             COLUMN_CATEGORY + " TEXT NOT NULL, " +
             COLUMN_DATE + " TEXT NOT NULL, " +
             COLUMN_DESCRIPTION + " TEXT, " +
+            COLUMN_CURRENCY + " TEXT NOT NULL DEFAULT '" + CurrencyConverter.BASE_CURRENCY + "', " +
             "FOREIGN KEY (" + COLUMN_USER_EMAIL + ") REFERENCES " + TABLE_USERS + "(" + COLUMN_EMAIL + "));";
 
+    private static final String CREATE_TABLE_EXCHANGE_RATES = "CREATE TABLE " + TABLE_EXCHANGE_RATES + " (" +
+            COLUMN_RATE_CURRENCY + " TEXT NOT NULL, " +
+            COLUMN_RATE_DATE + " TEXT NOT NULL, " +
+            COLUMN_RATE + " REAL NOT NULL, " +
+            "PRIMARY KEY (" + COLUMN_RATE_CURRENCY + ", " + COLUMN_RATE_DATE + "));";
+
+    private static final String CREATE_TABLE_ARCHIVE = "CREATE TABLE " + TABLE_ARCHIVE + " (" +
+            COLUMN_USER_EMAIL + " TEXT NOT NULL, " +
+            COLUMN_MONTH + " TEXT NOT NULL, " +
+            COLUMN_ROW_COUNT + " INTEGER NOT NULL, " +
+            COLUMN_PAYLOAD + " BLOB NOT NULL, " +
+            "PRIMARY KEY (" + COLUMN_USER_EMAIL + ", " + COLUMN_MONTH + "));";
+
+    private static final String CREATE_TABLE_SUMMARIES = "CREATE TABLE " + TABLE_SUMMARIES + " (" +
+            COLUMN_USER_EMAIL + " TEXT NOT NULL, " +
+            COLUMN_MONTH + " TEXT NOT NULL, " +
+            COLUMN_DATE + " TEXT NOT NULL, " +
+            COLUMN_CATEGORY + " TEXT NOT NULL, " +
+            COLUMN_CURRENCY + " TEXT NOT NULL, " +
+            COLUMN_TOTAL + " REAL NOT NULL, " +
+            COLUMN_COUNT + " INTEGER NOT NULL, " +
+            "PRIMARY KEY (" + COLUMN_USER_EMAIL + ", " + COLUMN_MONTH + ", " + COLUMN_DATE + ", " + COLUMN_CATEGORY + ", " + COLUMN_CURRENCY + "));";
+
+    // Lets the archive job find and delete one user-month without scanning the whole table;
+    // queries must use MONTH_OF_DATE verbatim for SQLite to match the expression
+    private static final String CREATE_INDEX_EXPENSES_USER_MONTH = "CREATE INDEX idx_expenses_user_month ON " + TABLE_EXPENSES +
+            " (" + COLUMN_USER_EMAIL + ", " + MONTH_OF_DATE + ");";
+
+    private final Context context;
+
     public DBHelper(Context context) {
-        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+        this(context, DATABASE_NAME);
+    }
+
+    // Lets tests point the helper at a throwaway database file
+    DBHelper(Context context, String databaseName) {
+        super(context, databaseName, null, DATABASE_VERSION);
+        this.context = context.getApplicationContext();
     }
 
     @Override
@@ -57,14 +128,31 @@ public class DBHelper extends SQLiteOpenHelper {
         db.execSQL(CREATE_TABLE_USERS);
         Log.d(TAG, "Creating expenses table...");
         db.execSQL(CREATE_TABLE_EXPENSES);
+        Log.d(TAG, "Creating exchange rates table...");
+        db.execSQL(CREATE_TABLE_EXCHANGE_RATES);
+        loadBundledExchangeRates(db);
+        Log.d(TAG, "Creating archive tables...");
+        db.execSQL(CREATE_TABLE_ARCHIVE);
+        db.execSQL(CREATE_TABLE_SUMMARIES);
+        db.execSQL(CREATE_INDEX_EXPENSES_USER_MONTH);
     }
 
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
-        Log.d(TAG, "Dropping tables for upgrade...");
-        db.execSQL("DROP TABLE IF EXISTS " + TABLE_EXPENSES);
-        db.execSQL("DROP TABLE IF EXISTS " + TABLE_USERS);
-        onCreate(db);
+        if (oldVersion < 2) {
+            // Existing expenses were all entered in the base currency
+            Log.d(TAG, "Adding currency column and exchange rates table...");
+            db.execSQL("ALTER TABLE " + TABLE_EXPENSES + " ADD COLUMN " + COLUMN_CURRENCY +
+                    " TEXT NOT NULL DEFAULT '" + CurrencyConverter.BASE_CURRENCY + "'");
+            db.execSQL(CREATE_TABLE_EXCHANGE_RATES);
+            loadBundledExchangeRates(db);
+        }
+        if (oldVersion < 3) {
+            Log.d(TAG, "Adding archive tables...");
+            db.execSQL(CREATE_TABLE_ARCHIVE);
+            db.execSQL(CREATE_TABLE_SUMMARIES);
+            db.execSQL(CREATE_INDEX_EXPENSES_USER_MONTH);
+        }
     }
 
     // User-related methods
@@ -110,10 +198,15 @@ public class DBHelper extends SQLiteOpenHelper {
 
     // Expense-related methods
     public boolean insertExpense(String userEmail, double amount, String category, String date, String description) {
+        return insertExpense(userEmail, amount, CurrencyConverter.BASE_CURRENCY, category, date, description);
+    }
+
+    public boolean insertExpense(String userEmail, double amount, String currency, String category, String date, String description) {
         SQLiteDatabase db = this.getWritableDatabase();
         ContentValues values = new ContentValues();
         values.put(COLUMN_USER_EMAIL, userEmail);
         values.put(COLUMN_AMOUNT, amount);
+        values.put(COLUMN_CURRENCY, currency);
         values.put(COLUMN_CATEGORY, category);
         values.put(COLUMN_DATE, date);
         values.put(COLUMN_DESCRIPTION, description);
@@ -121,6 +214,10 @@ public class DBHelper extends SQLiteOpenHelper {
         long result = db.insert(TABLE_EXPENSES, null, values);
         db.close();
         Log.d(TAG, "Insert expense result: " + (result != -1));
+        if (result != -1) {
+            DescriptionIndex.onExpenseInserted(userEmail,
+                    new Expense((int) result, userEmail, amount, currency, category, date, description));
+        }
         return result != -1;
     }
 
@@ -134,10 +231,11 @@ public class DBHelper extends SQLiteOpenHelper {
             do {
                 int id = cursor.getInt(cursor.getColumnIndexOrThrow(COLUMN_EXPENSE_ID));
                 double amount = cursor.getDouble(cursor.getColumnIndexOrThrow(COLUMN_AMOUNT));
+                String currency = cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_CURRENCY));
                 String category = cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_CATEGORY));
                 String date = cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_DATE));
                 String description = cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_DESCRIPTION));
-                expenses.add(new Expense(id, userEmail, amount, category, date, description));
+                expenses.add(new Expense(id, userEmail, amount, currency, category, date, description));
             } while (cursor.moveToNext());
         }
         cursor.close();
@@ -146,15 +244,53 @@ public class DBHelper extends SQLiteOpenHelper {
         return expenses;
     }
 
+    // Rows with a description, in id order, for building the autocomplete index page by page
+    public List<Expense> getDescribedExpensesAfter(String userEmail, long afterId, int limit) {
+        List<Expense> expenses = new ArrayList<>();
+        SQLiteDatabase db = this.getReadableDatabase();
+        String query = "SELECT * FROM " + TABLE_EXPENSES + " WHERE " + COLUMN_USER_EMAIL + " = ? AND " + COLUMN_EXPENSE_ID + " > ? AND " +
+                COLUMN_DESCRIPTION + " IS NOT NULL ORDER BY " + COLUMN_EXPENSE_ID + " LIMIT " + limit;
+        Cursor cursor = db.rawQuery(query, new String[]{userEmail, String.valueOf(afterId)});
+
+        int idIndex = cursor.getColumnIndexOrThrow(COLUMN_EXPENSE_ID);
+        int amountIndex = cursor.getColumnIndexOrThrow(COLUMN_AMOUNT);
+        int currencyIndex = cursor.getColumnIndexOrThrow(COLUMN_CURRENCY);
+        int categoryIndex = cursor.getColumnIndexOrThrow(COLUMN_CATEGORY);
+        int dateIndex = cursor.getColumnIndexOrThrow(COLUMN_DATE);
+        int descriptionIndex = cursor.getColumnIndexOrThrow(COLUMN_DESCRIPTION);
+        while (cursor.moveToNext()) {
+            expenses.add(new Expense(cursor.getInt(idIndex), userEmail, cursor.getDouble(amountIndex),
+                    cursor.getString(currencyIndex), cursor.getString(categoryIndex),
+                    cursor.getString(dateIndex), cursor.getString(descriptionIndex)));
+        }
+        cursor.close();
+        db.close();
+        return expenses;
+    }
+
+    // Total in the base currency over hot rows and archived summaries. Base-currency rows collapse into a
+    // single sum; rows in other currencies are summed per currency and day, then converted from the rate cache.
+    // Both tables are read by one statement, so it sees a single snapshot even while the archiver moves rows
     public double getTotalExpensesByUser(String userEmail) {
         SQLiteDatabase db = this.getReadableDatabase();
-        String query = "SELECT SUM(" + COLUMN_AMOUNT + ") as total FROM " + TABLE_EXPENSES + " WHERE " + COLUMN_USER_EMAIL + " = ?";
+        String day = "CASE WHEN " + COLUMN_CURRENCY + " = ? THEN NULL ELSE " + COLUMN_DATE + " END AS day";
+        String query = "SELECT " + COLUMN_CURRENCY + ", " + day + ", SUM(" + COLUMN_AMOUNT + ") FROM " + TABLE_EXPENSES +
+                " WHERE " + COLUMN_USER_EMAIL + " = ? GROUP BY " + COLUMN_CURRENCY + ", day" +
+                " UNION ALL SELECT " + COLUMN_CURRENCY + ", " + day + ", SUM(" + COLUMN_TOTAL + ") FROM " + TABLE_SUMMARIES +
+                " WHERE " + COLUMN_USER_EMAIL + " = ? GROUP BY " + COLUMN_CURRENCY + ", day";
+        String base = CurrencyConverter.BASE_CURRENCY;
         Cursor cursor = null;
         try {
-            cursor = db.rawQuery(query, new String[]{userEmail});
+            CurrencyConverter converter = getCurrencyConverter(db);
+            cursor = db.rawQuery(query, new String[]{base, userEmail, base, userEmail});
             double total = 0.0;
-            if (cursor.moveToFirst()) {
-                total = cursor.getDouble(cursor.getColumnIndexOrThrow("total"));
+            while (cursor.moveToNext()) {
+                if (cursor.isNull(1)) {
+                    total += cursor.getDouble(2);
+                } else {
+                    total += convertOrSkip(converter, cursor.getDouble(2), cursor.getString(0),
+                            CurrencyConverter.parseExpenseDate(cursor.getString(1)));
+                }
             }
             Log.d(TAG, "Total expenses for " + userEmail + ": " + total);
             return total;
@@ -167,19 +303,382 @@ public class DBHelper extends SQLiteOpenHelper {
         }
     }
 
+    // Base-currency totals per month and category over hot rows and archived summaries, newest month first
+    public List<CategoryTotal> getMonthlyCategoryTotals(String userEmail) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        String day = "CASE WHEN " + COLUMN_CURRENCY + " = ? THEN NULL ELSE " + COLUMN_DATE + " END AS day";
+        String query = "SELECT " + COLUMN_CATEGORY + ", " + COLUMN_CURRENCY + ", " + MONTH_OF_DATE + " AS " + COLUMN_MONTH + ", " + day +
+                ", SUM(" + COLUMN_AMOUNT + ") FROM " + TABLE_EXPENSES + " WHERE " + COLUMN_USER_EMAIL + " = ?" +
+                " GROUP BY " + COLUMN_CATEGORY + ", " + COLUMN_CURRENCY + ", " + COLUMN_MONTH + ", day" +
+                " UNION ALL SELECT " + COLUMN_CATEGORY + ", " + COLUMN_CURRENCY + ", " + COLUMN_MONTH + ", " + day +
+                ", SUM(" + COLUMN_TOTAL + ") FROM " + TABLE_SUMMARIES + " WHERE " + COLUMN_USER_EMAIL + " = ?" +
+                " GROUP BY " + COLUMN_CATEGORY + ", " + COLUMN_CURRENCY + ", " + COLUMN_MONTH + ", day";
+        String base = CurrencyConverter.BASE_CURRENCY;
+        Map<String, CategoryTotal> totals = new HashMap<>();
+        Cursor cursor = null;
+        try {
+            CurrencyConverter converter = getCurrencyConverter(db);
+            cursor = db.rawQuery(query, new String[]{base, userEmail, base, userEmail});
+            while (cursor.moveToNext()) {
+                double amount = cursor.isNull(3) ? cursor.getDouble(4) : convertOrSkip(converter, cursor.getDouble(4),
+                        cursor.getString(1), CurrencyConverter.parseExpenseDate(cursor.getString(3)));
+                addCategoryTotal(totals, cursor.getString(2), cursor.getString(0), amount);
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Error in getMonthlyCategoryTotals: " + e.getMessage());
+            return new ArrayList<>();
+        } finally {
+            if (cursor != null) cursor.close();
+            db.close();
+        }
+        List<CategoryTotal> result = new ArrayList<>(totals.values());
+        Collections.sort(result, new Comparator<CategoryTotal>() {
+            @Override
+            public int compare(CategoryTotal a, CategoryTotal b) {
+                int byMonth = b.getMonth().compareTo(a.getMonth());
+                return byMonth != 0 ? byMonth : a.getCategory().compareTo(b.getCategory());
+            }
+        });
+        return result;
+    }
+
+    private static void addCategoryTotal(Map<String, CategoryTotal> totals, String month, String category, double amount) {
+        String key = month + "|" + category;
+        CategoryTotal total = totals.get(key);
+        if (total == null) {
+            total = new CategoryTotal(month, category);
+            totals.put(key, total);
+        }
+        total.total += amount;
+    }
+
+    private double convertOrSkip(CurrencyConverter converter, double amount, String currency, int epochDay) {
+        double converted = amount * converter.factor(currency, CurrencyConverter.BASE_CURRENCY, epochDay);
+        if (Double.isNaN(converted)) {
+            Log.w(TAG, "No exchange rate for " + currency + ", leaving it out of the total");
+            return 0.0;
+        }
+        return converted;
+    }
+
+    // Archive methods
+
+    /**
+     * Moves every expense dated before {@code cutoffMonth} (YYYY-MM) into the archive, one
+     * transaction per user and month, and compacts the file once enough of it is free pages.
+     * A month that fails is logged and left in the hot table. Returns the number of rows moved.
+     */
+    public int archiveExpensesBefore(String cutoffMonth) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        int archived = 0;
+        try {
+            List<String[]> groups = new ArrayList<>();
+            String query = "SELECT DISTINCT " + COLUMN_USER_EMAIL + ", " + MONTH_OF_DATE + " FROM " + TABLE_EXPENSES +
+                    " WHERE " + MONTH_OF_DATE + " < ?";
+            Cursor cursor = db.rawQuery(query, new String[]{cutoffMonth});
+            while (cursor.moveToNext()) {
+                groups.add(new String[]{cursor.getString(0), cursor.getString(1)});
+            }
+            cursor.close();
+            for (String[] group : groups) {
+                try {
+                    archived += archiveMonth(db, group[0], group[1]);
+                } catch (IOException | RuntimeException e) {
+                    Log.e(TAG, "Error archiving " + group[1] + " for " + group[0] + ": " + e.getMessage());
+                }
+            }
+            if (archived > 0) {
+                vacuumIfFragmented(db);
+            }
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Error in archiveExpensesBefore: " + e.getMessage());
+        } finally {
+            db.close();
+        }
+        Log.d(TAG, "Archived " + archived + " expenses before " + cutoffMonth);
+        return archived;
+    }
+
+    // VACUUM rewrites the whole file, so only pay for it once deletes have left a good share of it unused
+    private void vacuumIfFragmented(SQLiteDatabase db) {
+        long freePages = DatabaseUtils.longForQuery(db, "PRAGMA freelist_count", null);
+        long pages = DatabaseUtils.longForQuery(db, "PRAGMA page_count", null);
+        if (pages == 0 || (double) freePages / pages < VACUUM_FREE_RATIO) {
+            return;
+        }
+        try {
+            db.execSQL("VACUUM");
+            Log.d(TAG, "Vacuumed " + freePages + " free pages of " + pages);
+        } catch (RuntimeException e) {
+            // Other connections may be reading; the next pass tries again
+            Log.w(TAG, "Skipped VACUUM: " + e.getMessage());
+        }
+    }
+
+    private int archiveMonth(SQLiteDatabase db, String userEmail, String month) throws IOException {
+        String[] args = new String[]{userEmail, month};
+        String where = COLUMN_USER_EMAIL + " = ? AND " + MONTH_OF_DATE + " = ?";
+        db.beginTransaction();
+        try {
+            // Rows dated into an already archived month are appended to its blob
+            List<Expense> rows = readArchive(db, userEmail, month);
+            Map<String, double[]> summaries = new HashMap<>();
+            Cursor cursor = db.rawQuery("SELECT * FROM " + TABLE_EXPENSES + " WHERE " + where + " ORDER BY " + COLUMN_EXPENSE_ID, args);
+            int moved = cursor.getCount();
+            while (cursor.moveToNext()) {
+                Expense expense = new Expense(
+                        cursor.getInt(cursor.getColumnIndexOrThrow(COLUMN_EXPENSE_ID)), userEmail,
+                        cursor.getDouble(cursor.getColumnIndexOrThrow(COLUMN_AMOUNT)),
+                        cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_CURRENCY)),
+                        cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_CATEGORY)),
+                        cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_DATE)),
+                        cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_DESCRIPTION)));
+                rows.add(expense);
+                // Only rows that need a dated rate are kept apart per day
+                String day = expense.getCurrency().equals(CurrencyConverter.BASE_CURRENCY) ? month : expense.getDate();
+                String key = expense.getCategory() + "|" + expense.getCurrency() + "|" + day;
+                double[] summary = summaries.get(key);
+                if (summary == null) {
+                    summary = new double[2];
+                    summaries.put(key, summary);
+                }
+                summary[0] += expense.getAmount();
+                summary[1]++;
+            }
+            cursor.close();
+
+            ContentValues values = new ContentValues();
+            values.put(COLUMN_USER_EMAIL, userEmail);
+            values.put(COLUMN_MONTH, month);
+            values.put(COLUMN_ROW_COUNT, rows.size());
+            values.put(COLUMN_PAYLOAD, ExpenseArchiver.encode(rows));
+            db.insertWithOnConflict(TABLE_ARCHIVE, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+
+            for (Map.Entry<String, double[]> entry : summaries.entrySet()) {
+                String[] key = entry.getKey().split("\\|", 3);
+                Object[] summaryKey = new Object[]{userEmail, month, key[2], key[0], key[1]};
+                db.execSQL("INSERT OR IGNORE INTO " + TABLE_SUMMARIES + " (" + COLUMN_USER_EMAIL + ", " + COLUMN_MONTH + ", " + COLUMN_DATE + ", " +
+                        COLUMN_CATEGORY + ", " + COLUMN_CURRENCY + ", " + COLUMN_TOTAL + ", " + COLUMN_COUNT + ") VALUES (?, ?, ?, ?, ?, 0, 0)", summaryKey);
+                db.execSQL("UPDATE " + TABLE_SUMMARIES + " SET " + COLUMN_TOTAL + " = " + COLUMN_TOTAL + " + ?, " + COLUMN_COUNT + " = " + COLUMN_COUNT + " + ?" +
+                        " WHERE " + COLUMN_USER_EMAIL + " = ? AND " + COLUMN_MONTH + " = ? AND " + COLUMN_DATE + " = ? AND " +
+                        COLUMN_CATEGORY + " = ? AND " + COLUMN_CURRENCY + " = ?",
+                        new Object[]{entry.getValue()[0], (long) entry.getValue()[1], userEmail, month, key[2], key[0], key[1]});
+            }
+
+            db.delete(TABLE_EXPENSES, where, args);
+            db.setTransactionSuccessful();
+            return moved;
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private List<Expense> readArchive(SQLiteDatabase db, String userEmail, String month) throws IOException {
+        String query = "SELECT " + COLUMN_PAYLOAD + " FROM " + TABLE_ARCHIVE + " WHERE " + COLUMN_USER_EMAIL + " = ? AND " + COLUMN_MONTH + " = ?";
+        Cursor cursor = db.rawQuery(query, new String[]{userEmail, month});
+        try {
+            if (cursor.moveToFirst()) {
+                return ExpenseArchiver.decode(cursor.getBlob(0), userEmail);
+            }
+            return new ArrayList<>();
+        } finally {
+            cursor.close();
+        }
+    }
+
+    // Archived months (YYYY-MM) for a user, newest first
+    public List<String> getArchivedMonths(String userEmail) {
+        List<String> months = new ArrayList<>();
+        SQLiteDatabase db = this.getReadableDatabase();
+        String query = "SELECT " + COLUMN_MONTH + " FROM " + TABLE_ARCHIVE + " WHERE " + COLUMN_USER_EMAIL + " = ? ORDER BY " + COLUMN_MONTH + " DESC";
+        Cursor cursor = db.rawQuery(query, new String[]{userEmail});
+        while (cursor.moveToNext()) {
+            months.add(cursor.getString(0));
+        }
+        cursor.close();
+        db.close();
+        return months;
+    }
+
+    // Raw rows of one archived month, decompressed on demand
+    public List<Expense> getArchivedExpenses(String userEmail, String month) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        try {
+            return readArchive(db, userEmail, month);
+        } catch (IOException e) {
+            Log.e(TAG, "Error in getArchivedExpenses: " + e.getMessage());
+            return new ArrayList<>();
+        } finally {
+            db.close();
+        }
+    }
+
+    // Exchange-rate methods
+    public CurrencyConverter getCurrencyConverter() {
+        CurrencyConverter converter = CurrencyConverter.getInstance();
+        if (!converter.isLoaded()) {
+            SQLiteDatabase db = this.getReadableDatabase();
+            getCurrencyConverter(db);
+            db.close();
+        }
+        return converter;
+    }
+
+    private CurrencyConverter getCurrencyConverter(SQLiteDatabase db) {
+        CurrencyConverter converter = CurrencyConverter.getInstance();
+        synchronized (converter) {
+            if (!converter.isLoaded()) {
+                loadExchangeRates(db, converter);
+            }
+        }
+        return converter;
+    }
+
+    private void loadExchangeRates(SQLiteDatabase db, CurrencyConverter converter) {
+        String query = "SELECT " + COLUMN_RATE_CURRENCY + ", " + COLUMN_RATE_DATE + ", " + COLUMN_RATE + " FROM " + TABLE_EXCHANGE_RATES +
+                " ORDER BY " + COLUMN_RATE_CURRENCY + ", " + COLUMN_RATE_DATE;
+        Cursor cursor = db.rawQuery(query, null);
+        int count = cursor.getCount();
+        String[] currencies = new String[count];
+        int[] days = new int[count];
+        double[] rates = new double[count];
+        for (int i = 0; cursor.moveToNext(); i++) {
+            currencies[i] = cursor.getString(0);
+            days[i] = CurrencyConverter.parseRateDate(cursor.getString(1));
+            rates[i] = cursor.getDouble(2);
+        }
+        cursor.close();
+        converter.setRates(currencies, days, rates);
+        Log.d(TAG, "Loaded " + count + " exchange rates");
+    }
+
+    public List<String> getAvailableCurrencies() {
+        List<String> currencies = new ArrayList<>();
+        currencies.add(CurrencyConverter.BASE_CURRENCY);
+        SQLiteDatabase db = this.getReadableDatabase();
+        String query = "SELECT DISTINCT " + COLUMN_RATE_CURRENCY + " FROM " + TABLE_EXCHANGE_RATES + " ORDER BY " + COLUMN_RATE_CURRENCY;
+        Cursor cursor = db.rawQuery(query, null);
+        while (cursor.moveToNext()) {
+            String currency = cursor.getString(0);
+            if (!currency.equals(CurrencyConverter.BASE_CURRENCY)) {
+                currencies.add(currency);
+            }
+        }
+        cursor.close();
+        db.close();
+        return currencies;
+    }
+
+    /**
+     * Merges the rows of a CSV file ("date,currency,rate" with dates as YYYY-MM-DD) into the
+     * stored rates and drops the cached conversions. A row replaces the rate for the same
+     * currency and day; currencies the file leaves out keep their rates, so expenses in them
+     * never drop out of the totals.
+     */
+    public boolean importExchangeRates(InputStream input) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        try {
+            List<ContentValues> rates = parseExchangeRates(input);
+            db.beginTransaction();
+            try {
+                writeExchangeRates(db, rates);
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+            Log.d(TAG, "Imported " + rates.size() + " exchange rates");
+            return true;
+        } catch (IOException | RuntimeException e) {
+            Log.e(TAG, "Error in importExchangeRates: " + e.getMessage());
+            return false;
+        } finally {
+            CurrencyConverter.getInstance().invalidate();
+            db.close();
+        }
+    }
+
+    // Runs inside the onCreate/onUpgrade transaction, so it must not open one of its own: a nested
+    // transaction ending without success would roll back the whole schema change
+    private void loadBundledExchangeRates(SQLiteDatabase db) {
+        List<ContentValues> rates;
+        try (InputStream input = context.getAssets().open(BUNDLED_RATES_FILE)) {
+            rates = parseExchangeRates(input);
+        } catch (IOException | RuntimeException e) {
+            Log.e(TAG, "Error loading bundled exchange rates: " + e.getMessage());
+            return;
+        }
+        writeExchangeRates(db, rates);
+        Log.d(TAG, "Loaded " + rates.size() + " bundled exchange rates");
+        CurrencyConverter.getInstance().invalidate();
+    }
+
+    // Reads and validates the whole file before anything is written, so a bad file never touches the current rates
+    private List<ContentValues> parseExchangeRates(InputStream input) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        List<ContentValues> rates = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            String[] fields = line.trim().split(",");
+            // Skip blank lines and the header
+            if (fields.length != 3 || fields[0].equals(COLUMN_RATE_DATE)) continue;
+            String date = fields[0].trim();
+            String currency = fields[1].trim().toUpperCase(Locale.US);
+            double rate = Double.parseDouble(fields[2].trim());
+            // Throws on malformed dates
+            CurrencyConverter.parseRateDate(date);
+            if (CurrencyConverter.pack(currency) < 0 || rate <= 0) {
+                throw new IllegalArgumentException("Invalid rate line: " + line);
+            }
+            ContentValues values = new ContentValues();
+            values.put(COLUMN_RATE_CURRENCY, currency);
+            values.put(COLUMN_RATE_DATE, date);
+            values.put(COLUMN_RATE, rate);
+            rates.add(values);
+        }
+        if (rates.isEmpty()) {
+            throw new IllegalArgumentException("No exchange rates found");
+        }
+        return rates;
+    }
+
+    // Upserts on (currency, date); callers own the transaction
+    private void writeExchangeRates(SQLiteDatabase db, List<ContentValues> rates) {
+        for (ContentValues values : rates) {
+            db.insertWithOnConflict(TABLE_EXCHANGE_RATES, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+        }
+    }
+
+    // Per-month, per-category total in the base currency
+    public static class CategoryTotal {
+        private final String month;
+        private final String category;
+        private double total;
+
+        public CategoryTotal(String month, String category) {
+            this.month = month;
+            this.category = category;
+        }
+
+        public String getMonth() { return month; }
+        public String getCategory() { return category; }
+        public double getTotal() { return total; }
+    }
+
     // Expense model class
     public static class Expense {
         private int id;
         private String userEmail;
         private double amount;
+        private String currency;
         private String category;
         private String date;
         private String description;
 
-        public Expense(int id, String userEmail, double amount, String category, String date, String description) {
+        public Expense(int id, String userEmail, double amount, String currency, String category, String date, String description) {
             this.id = id;
             this.userEmail = userEmail;
             this.amount = amount;
+            this.currency = currency;
             this.category = category;
             this.date = date;
             this.description = description;
@@ -188,6 +687,7 @@ public class DBHelper extends SQLiteOpenHelper {
         public int getId() { return id; }
         public String getUserEmail() { return userEmail; }
         public double getAmount() { return amount; }
+        public String getCurrency() { return currency; }
         public String getCategory() { return category; }
         public String getDate() { return date; }
         public String getDescription() { return description; }
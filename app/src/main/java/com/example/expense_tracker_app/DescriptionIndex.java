@@ -0,0 +1,304 @@
+package com.example.expense_tracker_app;
+
+import android.content.Context;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Prefix index over one user's past expense descriptions, used for autocomplete.
+ *
+ * Descriptions live in a trie whose nodes keep the ids of their {@link #MAX_SUGGESTIONS}
+ * most frequent completions, so a lookup is a walk down the typed prefix and never
+ * touches SQLite. The index is filled from the expenses table on a background thread
+ * and kept current by DBHelper on every insert.
+ */
+public class DescriptionIndex {
+    public static final int MAX_SUGGESTIONS = 5;
+
+    private static final String TAG = "DescriptionIndex";
+    private static final int BUILD_PAGE_SIZE = 5_000;
+    // Distinct amounts remembered per description; the least used one is replaced when full
+    private static final int AMOUNT_SLOTS = 4;
+
+    private static final Map<String, DescriptionIndex> indexes = new HashMap<>();
+    private static final ExecutorService buildExecutor = Executors.newSingleThreadExecutor();
+
+    private final Node root = new Node();
+    private final List<Entry> entries = new ArrayList<>();
+
+    // Highest expense id folded in so far, and inserts seen while the initial build was running
+    private long indexedUpTo;
+    private boolean ready;
+    private final List<DBHelper.Expense> pending = new ArrayList<>();
+
+    public static class Suggestion {
+        private final String description;
+        private final int count;
+        private final String category;
+        private final double amount;
+        private final String currency;
+
+        Suggestion(String description, int count, String category, double amount, String currency) {
+            this.description = description;
+            this.count = count;
+            this.category = category;
+            this.amount = amount;
+            this.currency = currency;
+        }
+
+        public String getDescription() { return description; }
+        public int getCount() { return count; }
+        public String getCategory() { return category; }
+        public double getAmount() { return amount; }
+        public String getCurrency() { return currency; }
+
+        // AutoCompleteTextView puts this text into the field when a suggestion is picked
+        @Override
+        public String toString() { return description; }
+    }
+
+    /** Returns the index for a user, starting a background build the first time it is requested. */
+    public static DescriptionIndex forUser(Context context, final String userEmail) {
+        synchronized (indexes) {
+            DescriptionIndex index = indexes.get(userEmail);
+            if (index == null) {
+                final DescriptionIndex created = new DescriptionIndex();
+                final Context appContext = context.getApplicationContext();
+                indexes.put(userEmail, created);
+                buildExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        created.build(new DBHelper(appContext), userEmail);
+                    }
+                });
+                index = created;
+            }
+            return index;
+        }
+    }
+
+    /** Called by DBHelper after an expense row is inserted. */
+    static void onExpenseInserted(String userEmail, DBHelper.Expense expense) {
+        DescriptionIndex index;
+        synchronized (indexes) {
+            index = indexes.get(userEmail);
+        }
+        if (index != null) {
+            index.record(expense);
+        }
+    }
+
+    // Reads the user's rows page by page in id order; a short page means we have caught up
+    private void build(DBHelper dbHelper, String userEmail) {
+        long start = System.currentTimeMillis();
+        try {
+            List<DBHelper.Expense> page;
+            do {
+                long after;
+                synchronized (this) {
+                    after = indexedUpTo;
+                }
+                page = dbHelper.getDescribedExpensesAfter(userEmail, after, BUILD_PAGE_SIZE);
+                synchronized (this) {
+                    for (DBHelper.Expense expense : page) {
+                        add(expense.getDescription(), expense.getCategory(), expense.getAmount(), expense.getCurrency());
+                        indexedUpTo = expense.getId();
+                    }
+                }
+            } while (page.size() == BUILD_PAGE_SIZE);
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Error building description index: " + e.getMessage());
+            // Drop the partial index so the next forUser call starts a fresh build
+            synchronized (indexes) {
+                if (indexes.get(userEmail) == this) {
+                    indexes.remove(userEmail);
+                }
+            }
+            return;
+        } finally {
+            dbHelper.close();
+        }
+        synchronized (this) {
+            ready = true;
+            for (DBHelper.Expense expense : pending) {
+                record(expense);
+            }
+            pending.clear();
+            Log.d(TAG, "Indexed " + entries.size() + " descriptions for " + userEmail +
+                    " in " + (System.currentTimeMillis() - start) + " ms");
+        }
+    }
+
+    synchronized void record(DBHelper.Expense expense) {
+        if (expense.getDescription() == null) return;
+        if (!ready) {
+            // The build may or may not read this row yet; decide once it is done
+            pending.add(expense);
+            return;
+        }
+        if (expense.getId() > indexedUpTo) {
+            add(expense.getDescription(), expense.getCategory(), expense.getAmount(), expense.getCurrency());
+            indexedUpTo = expense.getId();
+        }
+    }
+
+    /** Counts one more use of a description with the given category and amount. */
+    public synchronized void add(String description, String category, double amount, String currency) {
+        String display = description.trim();
+        if (display.isEmpty()) return;
+        String key = display.toLowerCase(Locale.ROOT);
+
+        // Walk (and extend) the path, remembering it for the top-k updates below
+        Node[] path = new Node[key.length() + 1];
+        Node node = root;
+        path[0] = node;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.childOrCreate(key.charAt(i));
+            path[i + 1] = node;
+        }
+        if (node.entry < 0) {
+            node.entry = entries.size();
+            entries.add(new Entry(display));
+        }
+        Entry entry = entries.get(node.entry);
+        entry.record(category, amount, currency);
+        for (Node onPath : path) {
+            onPath.offer(node.entry, entries);
+        }
+    }
+
+    /** Most frequent past descriptions starting with {@code prefix}, case-insensitively. */
+    public synchronized List<Suggestion> suggest(String prefix, int limit) {
+        List<Suggestion> suggestions = new ArrayList<>();
+        String key = prefix.trim().toLowerCase(Locale.ROOT);
+        if (key.isEmpty()) return suggestions;
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.child(key.charAt(i));
+        }
+        if (node == null) return suggestions;
+        for (int i = 0; i < node.topSize && suggestions.size() < limit; i++) {
+            suggestions.add(entries.get(node.top[i]).toSuggestion());
+        }
+        return suggestions;
+    }
+
+    private static class Node {
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private int entry = -1;
+        private final int[] top = new int[MAX_SUGGESTIONS];
+        private int topSize;
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        Node childOrCreate(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            if (i >= 0) return children[i];
+            i = -i - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, i);
+            System.arraycopy(children, 0, newChildren, 0, i);
+            System.arraycopy(keys, i, newKeys, i + 1, keys.length - i);
+            System.arraycopy(children, i, newChildren, i + 1, children.length - i);
+            newKeys[i] = c;
+            newChildren[i] = new Node();
+            keys = newKeys;
+            children = newChildren;
+            return newChildren[i];
+        }
+
+        // Counts only grow, so an entry can only enter or climb the list when it is the one being added
+        void offer(int entryId, List<Entry> entries) {
+            int position = -1;
+            for (int i = 0; i < topSize; i++) {
+                if (top[i] == entryId) {
+                    position = i;
+                    break;
+                }
+            }
+            if (position < 0) {
+                if (topSize < top.length) {
+                    position = topSize++;
+                } else if (entries.get(entryId).count > entries.get(top[topSize - 1]).count) {
+                    position = topSize - 1;
+                } else {
+                    return;
+                }
+                top[position] = entryId;
+            }
+            int count = entries.get(entryId).count;
+            while (position > 0 && entries.get(top[position - 1]).count < count) {
+                top[position] = top[position - 1];
+                top[--position] = entryId;
+            }
+        }
+    }
+
+    private static class Entry {
+        private final String description;
+        private int count;
+        private String[] categories = new String[0];
+        private int[] categoryCounts = new int[0];
+        private final double[] amounts = new double[AMOUNT_SLOTS];
+        private final String[] currencies = new String[AMOUNT_SLOTS];
+        private final int[] amountCounts = new int[AMOUNT_SLOTS];
+
+        Entry(String description) {
+            this.description = description;
+        }
+
+        void record(String category, double amount, String currency) {
+            count++;
+            int i = 0;
+            while (i < categories.length && !categories[i].equals(category)) i++;
+            if (i == categories.length) {
+                categories = Arrays.copyOf(categories, i + 1);
+                categoryCounts = Arrays.copyOf(categoryCounts, i + 1);
+                categories[i] = category;
+            }
+            categoryCounts[i]++;
+
+            int slot = -1;
+            int leastUsed = 0;
+            for (int j = 0; j < AMOUNT_SLOTS; j++) {
+                if (amountCounts[j] > 0 && amounts[j] == amount && currencies[j].equals(currency)) {
+                    slot = j;
+                    break;
+                }
+                if (amountCounts[j] < amountCounts[leastUsed]) leastUsed = j;
+            }
+            if (slot < 0) {
+                slot = leastUsed;
+                amounts[slot] = amount;
+                currencies[slot] = currency;
+                amountCounts[slot] = 0;
+            }
+            amountCounts[slot]++;
+        }
+
+        Suggestion toSuggestion() {
+            int category = 0;
+            for (int i = 1; i < categoryCounts.length; i++) {
+                if (categoryCounts[i] > categoryCounts[category]) category = i;
+            }
+            int amount = 0;
+            for (int i = 1; i < AMOUNT_SLOTS; i++) {
+                if (amountCounts[i] > amountCounts[amount]) amount = i;
+            }
+            return new Suggestion(description, count, categories[category], amounts[amount], currencies[amount]);
+        }
+    }
+}
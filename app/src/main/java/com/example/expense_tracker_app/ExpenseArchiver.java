@@ -0,0 +1,150 @@
+package com.example.expense_tracker_app;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Moves expenses older than a configurable horizon out of the hot expenses table.
+ *
+ * Each archived user-month becomes one gzipped blob of its raw rows plus per-category
+ * summary rows, which DBHelper merges back into totals. Base-currency summaries cover the
+ * whole month; other currencies are summarized per day so they keep their dated rate.
+ * The job runs at most once a day on a background thread.
+ */
+public class ExpenseArchiver {
+    public static final int DEFAULT_HORIZON_MONTHS = 24;
+
+    private static final String TAG = "ExpenseArchiver";
+    private static final String PREFS_NAME = "expense_archiver";
+    private static final String KEY_HORIZON_MONTHS = "horizon_months";
+    private static final String KEY_LAST_RUN = "last_run";
+    private static final long RUN_INTERVAL_MS = 24 * 60 * 60 * 1000L;
+    private static final int FORMAT_VERSION = 1;
+    // Anything longer in a blob means it is corrupt; refuse instead of allocating it
+    private static final int MAX_STRING_BYTES = 1 << 24;
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    public static int getHorizonMonths(Context context) {
+        return prefs(context).getInt(KEY_HORIZON_MONTHS, DEFAULT_HORIZON_MONTHS);
+    }
+
+    public static void setHorizonMonths(Context context, int months) {
+        if (months < 1) {
+            throw new IllegalArgumentException("Horizon must be at least one month");
+        }
+        prefs(context).edit().putInt(KEY_HORIZON_MONTHS, months).apply();
+    }
+
+    /** Starts an archival pass in the background unless one ran in the last day. */
+    public static void runIfDue(Context context) {
+        final Context appContext = context.getApplicationContext();
+        final SharedPreferences prefs = prefs(appContext);
+        long now = System.currentTimeMillis();
+        if (now - prefs.getLong(KEY_LAST_RUN, 0) < RUN_INTERVAL_MS) {
+            return;
+        }
+        prefs.edit().putLong(KEY_LAST_RUN, now).apply();
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                Calendar calendar = Calendar.getInstance();
+                String cutoff = cutoffMonth(calendar.get(Calendar.YEAR), calendar.get(Calendar.MONTH) + 1,
+                        getHorizonMonths(appContext));
+                DBHelper dbHelper = new DBHelper(appContext);
+                int archived = dbHelper.archiveExpensesBefore(cutoff);
+                dbHelper.close();
+                Log.d(TAG, "Archived " + archived + " expenses dated before " + cutoff);
+            }
+        });
+    }
+
+    /** First month (YYYY-MM) that stays in the hot table when keeping {@code horizonMonths}, including the current one. */
+    static String cutoffMonth(int year, int month, int horizonMonths) {
+        int months = year * 12 + (month - 1) - (horizonMonths - 1);
+        return String.format(Locale.US, "%04d-%02d", months / 12, months % 12 + 1);
+    }
+
+    /** Serializes rows into the gzipped format stored in the archive table. */
+    static byte[] encode(List<DBHelper.Expense> expenses) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeInt(expenses.size());
+            for (DBHelper.Expense expense : expenses) {
+                out.writeInt(expense.getId());
+                out.writeDouble(expense.getAmount());
+                writeString(out, expense.getCurrency());
+                writeString(out, expense.getCategory());
+                writeString(out, expense.getDate());
+                writeString(out, expense.getDescription());
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    static List<DBHelper.Expense> decode(byte[] payload, String userEmail) throws IOException {
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(payload)))) {
+            int version = in.readByte();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unknown archive format " + version);
+            }
+            int count = in.readInt();
+            List<DBHelper.Expense> expenses = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int id = in.readInt();
+                double amount = in.readDouble();
+                String currency = readString(in);
+                String category = readString(in);
+                String date = readString(in);
+                String description = readString(in);
+                expenses.add(new DBHelper.Expense(id, userEmail, amount, currency, category, date, description));
+            }
+            return expenses;
+        }
+    }
+
+    // Length-prefixed UTF-8, with -1 for null; unlike writeUTF this has no 64 KB limit
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > MAX_STRING_BYTES) {
+            throw new IOException("Corrupt archive string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static SharedPreferences prefs(Context context) {
+        return context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+}
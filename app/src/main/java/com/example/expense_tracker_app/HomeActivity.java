@@ -1,6 +1,8 @@
 package com.example.expense_tracker_app;
 
+import android.content.DialogInterface;
 import android.content.Intent;
+import android.net.Uri;
 import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -8,19 +10,37 @@ import android.view.ViewGroup;
 import android.widget.Button;
 import android.widget.TextView;
 import android.widget.Toast;
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
+import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
-import java.text.DecimalFormat;
+import java.io.IOException;
+import java.io.InputStream;
+import java.text.NumberFormat;
+import java.util.Currency;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 public class HomeActivity extends AppCompatActivity {
-    private TextView welcomeText, totalExpensesText;
+    private TextView welcomeText, totalExpensesText, importRatesLink, archivedMonthsLink;
     private Button addExpenseButton;
     private RecyclerView expenseList;
     private ExpenseAdapter expenseAdapter;
     private DBHelper dbHelper;
     private String userEmail;
+    private final Map<String, NumberFormat> currencyFormats = new HashMap<>();
+
+    // Lets the user pick a CSV of exchange rates to merge into the stored ones
+    private final ActivityResultLauncher<String[]> importRatesLauncher = registerForActivityResult(
+            new ActivityResultContracts.OpenDocument(), uri -> {
+                if (uri != null) {
+                    importExchangeRates(uri);
+                }
+            });
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -30,6 +50,8 @@ public class HomeActivity extends AppCompatActivity {
         // Initialize views
         welcomeText = findViewById(R.id.welcomeText);
         totalExpensesText = findViewById(R.id.totalExpensesText);
+        importRatesLink = findViewById(R.id.importRatesLink);
+        archivedMonthsLink = findViewById(R.id.archivedMonthsLink);
         addExpenseButton = findViewById(R.id.addExpenseButton);
         expenseList = findViewById(R.id.expenseList);
 
@@ -48,6 +70,12 @@ public class HomeActivity extends AppCompatActivity {
         String username = dbHelper.getUsernameByEmail(userEmail);
         welcomeText.setText("Welcome, " + (username.isEmpty() ? "User" : username) + "!");
 
+        // Move expenses past the retention horizon out of the hot table (at most once a day)
+        ExpenseArchiver.runIfDue(this);
+
+        // Start building the description autocomplete index before the user opens the add screen
+        DescriptionIndex.forUser(this, userEmail);
+
         // Set up RecyclerView
         expenseList.setLayoutManager(new LinearLayoutManager(this));
         expenseAdapter = new ExpenseAdapter();
@@ -65,6 +93,22 @@ public class HomeActivity extends AppCompatActivity {
                 startActivity(intent);
             }
         });
+
+        // Set click listener for import rates link
+        importRatesLink.setOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View v) {
+                importRatesLauncher.launch(new String[]{"text/csv", "text/comma-separated-values", "text/plain"});
+            }
+        });
+
+        // Set click listener for archived months link
+        archivedMonthsLink.setOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View v) {
+                showArchivedMonths();
+            }
+        });
     }
 
     @Override
@@ -77,24 +121,91 @@ public class HomeActivity extends AppCompatActivity {
     private void updateExpenses() {
         // Update total expenses
         double totalExpenses = dbHelper.getTotalExpensesByUser(userEmail);
-        DecimalFormat df = new DecimalFormat("$#,##0.00");
-        totalExpensesText.setText(df.format(totalExpenses));
+        totalExpensesText.setText(formatAmount(totalExpenses, CurrencyConverter.BASE_CURRENCY));
 
-        // Update RecyclerView
+        // Update RecyclerView, converting every row to the base currency in one pass
         List<DBHelper.Expense> expenses = dbHelper.getExpensesByUser(userEmail);
-        expenseAdapter.setExpenses(expenses);
+        double[] converted = dbHelper.getCurrencyConverter().convertAll(expenses, CurrencyConverter.BASE_CURRENCY);
+        expenseAdapter.setExpenses(expenses, converted);
+    }
+
+    private void showArchivedMonths() {
+        final List<String> months = dbHelper.getArchivedMonths(userEmail);
+        if (months.isEmpty()) {
+            Toast.makeText(this, "No archived expenses yet.", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        new AlertDialog.Builder(this)
+                .setTitle("Archived months")
+                .setItems(months.toArray(new String[0]), new DialogInterface.OnClickListener() {
+                    @Override
+                    public void onClick(DialogInterface dialog, int which) {
+                        showArchivedExpenses(months.get(which));
+                    }
+                })
+                .setNegativeButton("Close", null)
+                .show();
+    }
+
+    // Archived rows are only decompressed when the user opens their month
+    private void showArchivedExpenses(String month) {
+        List<DBHelper.Expense> expenses = dbHelper.getArchivedExpenses(userEmail, month);
+        String[] lines = new String[expenses.size()];
+        for (int i = 0; i < lines.length; i++) {
+            DBHelper.Expense expense = expenses.get(i);
+            lines[i] = expense.getDate() + "  " + formatAmount(expense.getAmount(), expense.getCurrency()) +
+                    "  " + expense.getCategory() +
+                    (expense.getDescription() != null ? " - " + expense.getDescription() : "");
+        }
+        new AlertDialog.Builder(this)
+                .setTitle("Expenses in " + month)
+                .setItems(lines, null)
+                .setNegativeButton("Close", null)
+                .show();
+    }
+
+    private void importExchangeRates(Uri uri) {
+        boolean success;
+        try (InputStream input = getContentResolver().openInputStream(uri)) {
+            success = input != null && dbHelper.importExchangeRates(input);
+        } catch (IOException e) {
+            success = false;
+        }
+        if (success) {
+            Toast.makeText(this, "Exchange rates imported!", Toast.LENGTH_SHORT).show();
+            updateExpenses();
+        } else {
+            Toast.makeText(this, "Failed to import exchange rates.", Toast.LENGTH_SHORT).show();
+        }
+    }
+
+    private String formatAmount(double amount, String currency) {
+        NumberFormat format = currencyFormats.get(currency);
+        if (format == null) {
+            format = NumberFormat.getCurrencyInstance(Locale.US);
+            try {
+                format.setCurrency(Currency.getInstance(currency));
+            } catch (IllegalArgumentException e) {
+                // Unknown code, keep the default symbol
+            }
+            currencyFormats.put(currency, format);
+        }
+        return format.format(amount);
     }
 
     // RecyclerView Adapter
     private class ExpenseAdapter extends RecyclerView.Adapter<ExpenseAdapter.ExpenseViewHolder> {
         private List<DBHelper.Expense> expenses;
+        private double[] convertedAmounts;
 
         public ExpenseAdapter() {
             this.expenses = new java.util.ArrayList<>();
+            this.convertedAmounts = new double[0];
         }
 
-        public void setExpenses(List<DBHelper.Expense> expenses) {
+        public void setExpenses(List<DBHelper.Expense> expenses, double[] convertedAmounts) {
             this.expenses = expenses;
+            this.convertedAmounts = convertedAmounts;
             notifyDataSetChanged();
         }
 
@@ -108,8 +219,12 @@ public class HomeActivity extends AppCompatActivity {
         @Override
         public void onBindViewHolder(ExpenseViewHolder holder, int position) {
             DBHelper.Expense expense = expenses.get(position);
-            DecimalFormat df = new DecimalFormat("$#,##0.00");
-            holder.amountText.setText(df.format(expense.getAmount()));
+            String amount = formatAmount(expense.getAmount(), expense.getCurrency());
+            double converted = convertedAmounts[position];
+            if (!expense.getCurrency().equals(CurrencyConverter.BASE_CURRENCY) && !Double.isNaN(converted)) {
+                amount += " (≈ " + formatAmount(converted, CurrencyConverter.BASE_CURRENCY) + ")";
+            }
+            holder.amountText.setText(amount);
             holder.categoryText.setText(expense.getCategory());
             holder.dateText.setText(expense.getDate());
             holder.descriptionText.setText(expense.getDescription() != null ? expense.getDescription() : "");
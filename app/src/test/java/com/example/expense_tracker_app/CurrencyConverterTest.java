@@ -0,0 +1,78 @@
+package com.example.expense_tracker_app;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CurrencyConverterTest {
+    private static final double DELTA = 1e-9;
+
+    private CurrencyConverter converter;
+
+    @Before
+    public void setUp() {
+        converter = new CurrencyConverter();
+        converter.setRates(
+                new String[]{"EUR", "EUR", "GBP"},
+                new int[]{day("2024-01-01"), day("2025-01-01"), day("2024-01-01")},
+                new double[]{1.10, 1.04, 1.25});
+    }
+
+    @Test
+    public void epochDay_matchesKnownDates() {
+        assertEquals(0, CurrencyConverter.epochDay(1970, 1, 1));
+        assertEquals(19723, CurrencyConverter.epochDay(2024, 1, 1));
+        assertEquals(19782, CurrencyConverter.parseExpenseDate("02/29/2024"));
+        assertEquals(Integer.MAX_VALUE, CurrencyConverter.parseExpenseDate("not a date"));
+    }
+
+    @Test
+    public void factor_usesLatestRateOnOrBeforeDay() {
+        assertEquals(1.10, converter.factor("EUR", "USD", day("2024-06-30")), DELTA);
+        assertEquals(1.04, converter.factor("EUR", "USD", day("2025-01-01")), DELTA);
+        // Days before the first rate fall back to it
+        assertEquals(1.10, converter.factor("EUR", "USD", day("2020-01-01")), DELTA);
+        assertEquals(1.0 / 1.25, converter.factor("USD", "GBP", day("2024-03-01")), DELTA);
+        assertEquals(1.10 / 1.25, converter.factor("EUR", "GBP", day("2024-03-01")), DELTA);
+    }
+
+    @Test
+    public void factor_unknownCurrencyIsNaN() {
+        assertTrue(Double.isNaN(converter.factor("JPY", "USD", day("2024-03-01"))));
+        assertTrue(Double.isNaN(converter.factor("xx", "USD", day("2024-03-01"))));
+    }
+
+    @Test
+    public void convertAll_convertsEveryRow() {
+        List<DBHelper.Expense> expenses = Arrays.asList(
+                new DBHelper.Expense(1, "a@b.c", 10.0, "EUR", "Food", "03/01/2025", null),
+                new DBHelper.Expense(2, "a@b.c", 20.0, "EUR", "Food", "03/01/2025", null),
+                new DBHelper.Expense(3, "a@b.c", 5.0, "USD", "Food", "03/01/2025", null),
+                new DBHelper.Expense(4, "a@b.c", 8.0, "GBP", "Food", "02/01/2024", null));
+        double[] converted = converter.convertAll(expenses, "USD");
+        assertArrayEquals(new double[]{10.4, 20.8, 5.0, 10.0}, converted, DELTA);
+    }
+
+    @Test
+    public void setRates_dropsCachedFactors() {
+        int today = day("2025-02-01");
+        assertEquals(1.04, converter.factor("EUR", "USD", today), DELTA);
+        converter.setRates(new String[]{"EUR"}, new int[]{day("2025-01-01")}, new double[]{1.20});
+        assertEquals(1.20, converter.factor("EUR", "USD", today), DELTA);
+    }
+
+    @Test
+    public void invalidate_marksRatesForReload() {
+        assertTrue(converter.isLoaded());
+        converter.invalidate();
+        assertFalse(converter.isLoaded());
+    }
+
+    private static int day(String isoDate) {
+        return CurrencyConverter.parseRateDate(isoDate);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.expense_tracker_app;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class DescriptionIndexTest {
+    private DescriptionIndex index;
+
+    @Before
+    public void setUp() {
+        index = new DescriptionIndex();
+    }
+
+    @Test
+    public void suggest_ranksByFrequency() {
+        add("Coffee", 3);
+        add("Cinema", 5);
+        add("Car wash", 1);
+
+        List<DescriptionIndex.Suggestion> suggestions = index.suggest("c", 5);
+        assertEquals(3, suggestions.size());
+        assertEquals("Cinema", suggestions.get(0).getDescription());
+        assertEquals("Coffee", suggestions.get(1).getDescription());
+        assertEquals("Car wash", suggestions.get(2).getDescription());
+        assertEquals(5, suggestions.get(0).getCount());
+    }
+
+    @Test
+    public void suggest_isCaseInsensitiveAndKeepsFirstSpelling() {
+        index.add("Groceries", "Food", 40.0, "USD");
+        index.add("groceries ", "Food", 40.0, "USD");
+
+        List<DescriptionIndex.Suggestion> suggestions = index.suggest("GRO", 5);
+        assertEquals(1, suggestions.size());
+        assertEquals("Groceries", suggestions.get(0).getDescription());
+        assertEquals(2, suggestions.get(0).getCount());
+    }
+
+    @Test
+    public void suggest_unknownOrEmptyPrefixReturnsNothing() {
+        add("Lunch", 2);
+        assertTrue(index.suggest("x", 5).isEmpty());
+        assertTrue(index.suggest("lunchbox", 5).isEmpty());
+        assertTrue(index.suggest("  ", 5).isEmpty());
+    }
+
+    @Test
+    public void suggest_keepsOnlyTheMostFrequent() {
+        for (int i = 0; i < 8; i++) {
+            add("Item " + i, i + 1);
+        }
+        // A rare entry that later becomes the most used one climbs to the top
+        add("Item 0", 20);
+
+        List<DescriptionIndex.Suggestion> suggestions = index.suggest("item", 10);
+        assertEquals(DescriptionIndex.MAX_SUGGESTIONS, suggestions.size());
+        assertEquals("Item 0", suggestions.get(0).getDescription());
+        assertEquals("Item 7", suggestions.get(1).getDescription());
+        assertEquals("Item 4", suggestions.get(4).getDescription());
+    }
+
+    @Test
+    public void suggestion_carriesMostCommonCategoryAndAmount() {
+        index.add("Taxi", "Transport", 12.0, "USD");
+        index.add("Taxi", "Transport", 15.0, "EUR");
+        index.add("Taxi", "Transport", 15.0, "EUR");
+        index.add("Taxi", "Other", 15.0, "EUR");
+
+        DescriptionIndex.Suggestion suggestion = index.suggest("ta", 1).get(0);
+        assertEquals("Transport", suggestion.getCategory());
+        assertEquals(15.0, suggestion.getAmount(), 0.0);
+        assertEquals("EUR", suggestion.getCurrency());
+    }
+
+    private void add(String description, int times) {
+        for (int i = 0; i < times; i++) {
+            index.add(description, "Other", 1.0, "USD");
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.expense_tracker_app;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ExpenseArchiverTest {
+    @Test
+    public void cutoffMonth_keepsHorizonIncludingCurrentMonth() {
+        assertEquals("2024-11", ExpenseArchiver.cutoffMonth(2026, 10, 24));
+        assertEquals("2026-10", ExpenseArchiver.cutoffMonth(2026, 10, 1));
+        assertEquals("2025-12", ExpenseArchiver.cutoffMonth(2026, 1, 2));
+    }
+
+    @Test
+    public void encode_roundTripsRows() throws IOException {
+        List<DBHelper.Expense> expenses = Arrays.asList(
+                new DBHelper.Expense(3, "a@b.c", 12.5, "EUR", "Food", "01/15/2022", "Lunch"),
+                new DBHelper.Expense(9, "a@b.c", 40.0, "USD", "Bills", "01/31/2022", null));
+
+        List<DBHelper.Expense> decoded = ExpenseArchiver.decode(ExpenseArchiver.encode(expenses), "a@b.c");
+
+        assertEquals(2, decoded.size());
+        for (int i = 0; i < expenses.size(); i++) {
+            DBHelper.Expense expected = expenses.get(i);
+            DBHelper.Expense actual = decoded.get(i);
+            assertEquals(expected.getId(), actual.getId());
+            assertEquals(expected.getUserEmail(), actual.getUserEmail());
+            assertEquals(expected.getAmount(), actual.getAmount(), 0.0);
+            assertEquals(expected.getCurrency(), actual.getCurrency());
+            assertEquals(expected.getCategory(), actual.getCategory());
+            assertEquals(expected.getDate(), actual.getDate());
+            assertEquals(expected.getDescription(), actual.getDescription());
+        }
+    }
+
+    @Test
+    public void encode_handlesDescriptionsOverSixtyFourKilobytes() throws IOException {
+        char[] text = new char[70_000];
+        Arrays.fill(text, '\u00e9');
+        String description = new String(text);
+        List<DBHelper.Expense> expenses = Arrays.asList(
+                new DBHelper.Expense(1, "a@b.c", 1.0, "USD", "Other", "02/01/2022", description));
+
+        List<DBHelper.Expense> decoded = ExpenseArchiver.decode(ExpenseArchiver.encode(expenses), "a@b.c");
+
+        assertEquals(description, decoded.get(0).getDescription());
+    }
+
+    @Test(expected = IOException.class)
+    public void decode_rejectsGarbage() throws IOException {
+        ExpenseArchiver.decode(new byte[]{1, 2, 3}, "a@b.c");
+    }
+}